@@ -0,0 +1,41 @@
+package org.home.loadtest;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Runs the exploded {@code Accountant} war (as built by {@code mvn package} in the root project)
+ * in an embedded Tomcat bound to a free loopback port.
+ */
+public class EmbeddedWebapp implements AutoCloseable {
+
+    private final Tomcat tomcat = new Tomcat();
+
+    public EmbeddedWebapp(File webappDir, int maxThreads) throws IOException, LifecycleException {
+
+        if (!new File(webappDir, "WEB-INF/classes").isDirectory())
+            throw new IOException(webappDir.getAbsolutePath() + " is not an exploded webapp, run mvn package first");
+
+        tomcat.setBaseDir(Files.createTempDirectory("accountant-tomcat").toString());
+        tomcat.setHostname("localhost");
+        tomcat.setPort(0);
+        tomcat.getConnector().setProperty("address", "127.0.0.1");
+        tomcat.getConnector().setProperty("maxThreads", String.valueOf(maxThreads));
+        tomcat.addWebapp("", webappDir.getAbsolutePath());
+        tomcat.start();
+    }
+
+    public String getImportUrl() {
+        return "http://127.0.0.1:" + tomcat.getConnector().getLocalPort() + "/accountant/importXLS";
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+}
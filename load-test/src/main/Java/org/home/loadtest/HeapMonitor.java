@@ -0,0 +1,74 @@
+package org.home.loadtest;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples heap usage and collector activity of this JVM while a run is in progress. The webapp and
+ * the driver share the JVM, so the figures include the (small) client side as well.
+ */
+public class HeapMonitor {
+
+    private static final long SAMPLE_MILLIS = 50;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final Map<String, long[]> collectionsAtStart = new LinkedHashMap<>();
+    private ScheduledExecutorService sampler;
+    private volatile long peakHeapUsed;
+    private long heapUsedAtStart, heapMax;
+
+    public void start() {
+        for (GarbageCollectorMXBean collector : collectors)
+            collectionsAtStart.put(collector.getName(),
+                    new long[] { collector.getCollectionCount(), collector.getCollectionTime() });
+        heapUsedAtStart = memory.getHeapMemoryUsage().getUsed();
+        heapMax = memory.getHeapMemoryUsage().getMax();
+        peakHeapUsed = heapUsedAtStart;
+
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heap-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(() -> peakHeapUsed = Math.max(peakHeapUsed, memory.getHeapMemoryUsage().getUsed()),
+                0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop(PrintStream out, long wallMillis) {
+
+        sampler.shutdownNow();
+        long heapUsedAtEnd = memory.getHeapMemoryUsage().getUsed();
+        List<String> collections = new ArrayList<>();
+
+        for (GarbageCollectorMXBean collector : collectors) {
+            long[] start = collectionsAtStart.get(collector.getName());
+            if (start == null)
+                continue;
+            long count = collector.getCollectionCount() - start[0], time = collector.getCollectionTime() - start[1];
+            collections.add(String.format(Locale.US, "gc %-24s %6d collections, %7d ms (%.1f%% of wall time)",
+                    collector.getName(), count, time, wallMillis > 0 ? 100.0 * time / wallMillis : 0));
+        }
+
+        System.gc();
+        long heapRetained = memory.getHeapMemoryUsage().getUsed();
+
+        out.printf(Locale.US, "heap: start %s, peak %s, end %s, after full gc %s, max %s%n",
+                mb(heapUsedAtStart), mb(peakHeapUsed), mb(heapUsedAtEnd), mb(heapRetained), mb(heapMax));
+        collections.forEach(out::println);
+    }
+
+    private static String mb(long bytes) {
+        return bytes < 0 ? "n/a" : String.format(Locale.US, "%.1f MB", bytes / 1048576.0);
+    }
+}
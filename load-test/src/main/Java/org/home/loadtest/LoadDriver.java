@@ -0,0 +1,123 @@
+package org.home.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps {@code concurrency} uploads in flight until the requested number has completed.
+ * Uploads are taken round-robin, so every payload gets the same share of the run. A request that
+ * can't connect or stalls past the timeouts counts as an I/O failure, so one hung upload can't hang the run.
+ */
+public class LoadDriver {
+
+    private static final String RESULT_MARKER = "payments total:";
+
+    private final URL endpoint;
+    private final List<Upload> uploads;
+    private final int concurrency, connectTimeoutMillis, readTimeoutMillis;
+
+    public LoadDriver(String endpoint, List<Upload> uploads, int concurrency,
+                      int connectTimeoutMillis, int readTimeoutMillis) throws IOException {
+        this.endpoint = new URL(endpoint);
+        this.uploads = uploads;
+        this.concurrency = concurrency;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    public LoadResult run(int requests) throws InterruptedException {
+
+        AtomicInteger next = new AtomicInteger();
+        long[] latencies = new long[requests];
+        int[] statuses = new int[requests];
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+
+        for (int worker = 0; worker < concurrency; worker++)
+            workers.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int request;
+                while ((request = next.getAndIncrement()) < requests) {
+                    long begin = System.nanoTime();
+                    statuses[request] = send(uploads.get(request % uploads.size()));
+                    latencies[request] = System.nanoTime() - begin;
+                }
+            });
+
+        long begin = System.nanoTime();
+        start.countDown();
+        workers.shutdown();
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        long wallNanos = System.nanoTime() - begin;
+
+        String[] names = new String[uploads.size()];
+        long[][] byUpload = new long[uploads.size()][];
+        int[] counts = new int[uploads.size()];
+        for (int upload = 0; upload < names.length; upload++) {
+            names[upload] = uploads.get(upload).getName();
+            byUpload[upload] = new long[requests / names.length + 1];
+        }
+
+        Map<Integer, Integer> failures = new HashMap<>();
+        for (int request = 0; request < requests; request++) {
+            int upload = request % names.length;
+            byUpload[upload][counts[upload]++] = latencies[request];
+            if (statuses[request] != 200)
+                failures.merge(statuses[request], 1, Integer::sum);
+        }
+        for (int upload = 0; upload < names.length; upload++)
+            byUpload[upload] = Arrays.copyOf(byUpload[upload], counts[upload]);
+
+        return new LoadResult(names, byUpload, failures, wallNanos);
+    }
+
+    private int send(Upload upload) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+            connection.setConnectTimeout(connectTimeoutMillis);
+            connection.setReadTimeout(readTimeoutMillis);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", Upload.getContentType());
+            connection.setFixedLengthStreamingMode(upload.getBody().length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(upload.getBody());
+            }
+
+            int status = connection.getResponseCode();
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                String body = in == null ? "" : readFully(in);
+                return status == 200 && !body.contains(RESULT_MARKER) ? 0 : status;
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1)
+            body.write(buffer, 0, read);
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,73 @@
+package org.home.loadtest;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies of one run, grouped by upload, with failures counted by HTTP status
+ * ({@code -1} for I/O errors and {@code 0} for a 200 without the result table).
+ */
+public class LoadResult {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final long[][] latencies;
+    private final String[] names;
+    private final Map<Integer, Integer> failures;
+    private final long wallNanos;
+
+    LoadResult(String[] names, long[][] latencies, Map<Integer, Integer> failures, long wallNanos) {
+        this.names = names;
+        this.latencies = latencies;
+        this.failures = new TreeMap<>(failures);
+        this.wallNanos = wallNanos;
+    }
+
+    public long getWallMillis() {
+        return wallNanos / 1_000_000;
+    }
+
+    public void print(PrintStream out) {
+
+        long[] all = new long[0];
+        for (long[] upload : latencies) {
+            int from = all.length;
+            all = Arrays.copyOf(all, from + upload.length);
+            System.arraycopy(upload, 0, all, from, upload.length);
+        }
+
+        int failed = failures.values().stream().mapToInt(Integer::intValue).sum();
+        out.printf(Locale.US, "requests: %d in %.2f s, %.1f req/s, %d failed %s%n",
+                all.length, wallNanos / 1e9, all.length / (wallNanos / 1e9), failed, failed > 0 ? failures : "");
+
+        printLatencies(out, "all", all);
+        for (int upload = 0; upload < names.length; upload++)
+            printLatencies(out, names[upload], latencies[upload]);
+    }
+
+    private static void printLatencies(PrintStream out, String name, long[] nanos) {
+
+        if (nanos.length == 0)
+            return;
+
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+
+        StringBuilder line = new StringBuilder(String.format(Locale.US, "%-28s n=%-6d mean %8.1f ms",
+                name, sorted.length, Arrays.stream(sorted).average().getAsDouble() / 1e6));
+        for (double percentile : PERCENTILES)
+            line.append(String.format(Locale.US, ", p%s %8.1f ms",
+                    percentile == (long) percentile ? String.valueOf((long) percentile) : String.valueOf(percentile),
+                    percentile(sorted, percentile) / 1e6));
+        line.append(String.format(Locale.US, ", max %8.1f ms", sorted[sorted.length - 1] / 1e6));
+        out.println(line);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+}
@@ -0,0 +1,116 @@
+package org.home.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures how many concurrent {@code POST /accountant/importXLS} requests one node sustains.
+ *
+ * <pre>
+ * mvn package
+ * mvn -f load-test/pom.xml compile exec:exec -Dloadtest.args="--concurrency=16 --requests=2000"
+ * </pre>
+ *
+ * Options (all {@code --name=value}): {@code concurrency} (8), {@code requests} (400), {@code warmup} (40),
+ * {@code synthetic-rows} (3000), {@code server-threads} (200), {@code connect-timeout} (5000 ms),
+ * {@code read-timeout} (60000 ms), {@code webapp} (../target/Accountant),
+ * {@code fixtures} (../doc/stock_split_examples).
+ */
+public class LoadTest {
+
+    private static final int MAX_UPLOAD_SIZE = 1000000;
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, String> options = parseOptions(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "8")),
+                requests = Integer.parseInt(options.getOrDefault("requests", "400")),
+                warmup = Integer.parseInt(options.getOrDefault("warmup", "40")),
+                syntheticRows = Integer.parseInt(options.getOrDefault("synthetic-rows", "3000")),
+                serverThreads = Integer.parseInt(options.getOrDefault("server-threads", "200")),
+                connectTimeout = Integer.parseInt(options.getOrDefault("connect-timeout", "5000")),
+                readTimeout = Integer.parseInt(options.getOrDefault("read-timeout", "60000"));
+        File webapp = new File(options.getOrDefault("webapp", "../target/Accountant")),
+                fixtures = new File(options.getOrDefault("fixtures", "../doc/stock_split_examples"));
+
+        System.setProperty("http.maxConnections", String.valueOf(concurrency));
+
+        try (StubUpstreams upstreams = new StubUpstreams(Math.max(4, concurrency))) {
+            System.setProperty("accountant.inflationDataUrl", upstreams.getInflationDataUrl());
+            System.setProperty("accountant.divDataUrl", upstreams.getDivDataUrl());
+
+            List<Upload> uploads = createUploads(fixtures, syntheticRows);
+            for (Upload upload : uploads)
+                System.out.printf(Locale.US, "upload %-28s %8d bytes%s%n", upload.getName(), upload.getStatementSize(),
+                        upload.getBody().length > MAX_UPLOAD_SIZE ? " (over the webapp's upload limit)" : "");
+
+            try (EmbeddedWebapp app = new EmbeddedWebapp(webapp, serverThreads)) {
+                LoadDriver driver =
+                        new LoadDriver(app.getImportUrl(), uploads, concurrency, connectTimeout, readTimeout);
+
+                System.out.printf("warming up with %d requests%n", warmup);
+                driver.run(warmup).print(System.out);
+
+                System.out.printf("running %d requests with concurrency %d%n", requests, concurrency);
+                HeapMonitor heap = new HeapMonitor();
+                heap.start();
+                LoadResult result = driver.run(requests);
+                result.print(System.out);
+                heap.stop(System.out, result.getWallMillis());
+                System.out.printf("upstream stub requests: %d%n", upstreams.getRequests());
+            }
+        }
+    }
+
+    private static List<Upload> createUploads(File fixtures, int syntheticRows) throws IOException {
+
+        List<Upload> uploads = new ArrayList<>();
+        uploads.add(Upload.of("vtbr.xls", "vtbr.xls",
+                Files.readAllBytes(new File(fixtures, "vtbr/vtbr.xls").toPath()),
+                params("vtbr", "81", "2024-07-11", "5000", "1")));
+        uploads.add(Upload.of("gmkn_example.xls", "gmkn_example.xls",
+                Files.readAllBytes(new File(fixtures, "gmkn/gmkn_example.xls").toPath()),
+                params("gmkn", "112", "2024-04-04", "0.01", "10")));
+
+        if (syntheticRows > 0) {
+            SyntheticStatements synthetic = new SyntheticStatements("gmkn", syntheticRows, 42);
+            uploads.add(Upload.of("synthetic-" + syntheticRows + ".xls", "synthetic.xls",
+                    synthetic.toXls(), params("gmkn", "112", "", null, null)));
+            uploads.add(Upload.of("synthetic-" + syntheticRows + ".csv", "synthetic.csv",
+                    synthetic.toCsv(), params("gmkn", "112", "", null, null)));
+        }
+
+        return uploads;
+    }
+
+    private static Map<String, String> params(String ticker, String price, String splitDate,
+                                              String splitRatio, String lotAfterSplit) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("ticker", ticker);
+        params.put("tax", "13");
+        params.put("price", price);
+        params.put("splitDate", splitDate);
+        if (splitRatio != null)
+            params.put("splitRatio", splitRatio);
+        if (lotAfterSplit != null)
+            params.put("lotAfterSplit", lotAfterSplit);
+        return params;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("="))
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+}
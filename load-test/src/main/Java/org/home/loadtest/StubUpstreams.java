@@ -0,0 +1,93 @@
+package org.home.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves stand-ins for the statbureau.org inflation table and dohod.ru dividend pages from
+ * {@code /upstream} on the classpath, so the webapp under test never leaves localhost. The bundled pages
+ * are synthetic, not recordings (see the comment at the top of each); {@link UpstreamRecorder} replaces
+ * them with the live pages.
+ */
+public class StubUpstreams implements AutoCloseable {
+
+    static final String INFLATION_PATH = "/inflation-tables", DIVIDEND_PATH = "/dividend/";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> pages = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+
+    public StubUpstreams(int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext(INFLATION_PATH, exchange -> serve(exchange, "upstream/inflation-tables.html"));
+        server.createContext(DIVIDEND_PATH, exchange -> serve(exchange, "upstream/dividend/" +
+                exchange.getRequestURI().getPath().substring(DIVIDEND_PATH.length()).toLowerCase() + ".html"));
+        server.start();
+    }
+
+    public String getInflationDataUrl() {
+        return getBaseUrl() + INFLATION_PATH;
+    }
+
+    public String getDivDataUrl() {
+        return getBaseUrl() + DIVIDEND_PATH;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    private String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private void serve(HttpExchange exchange, String resource) throws IOException {
+        requests.incrementAndGet();
+        byte[] page = pages.computeIfAbsent(resource, StubUpstreams::load);
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (page.length == 0) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, page.length);
+            out.write(page);
+        }
+    }
+
+    private static byte[] load(String resource) {
+        try (InputStream in = StubUpstreams.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null)
+                return new byte[0];
+            ByteArrayOutputStream page = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1)
+                page.write(buffer, 0, read);
+            return page.toByteArray();
+        } catch (IOException e) {
+            return new byte[0];
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,144 @@
+package org.home.loadtest;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Builds large broker statements in the same column layout as the {@code doc/stock_split_examples}
+ * fixtures. Both formats of one generator seed hold the same trades.
+ */
+public class SyntheticStatements {
+
+    private static final String[] HEADER = {
+            "Дата и время заключения сделки", "Номер сделки", "Номер заявки", "Код инструмента",
+            "Краткое наименование инструмента", "Рынок", "Направление", "Кол-во", "Цена", "Валюта",
+            "Объём", "НКД", "Доходность", "Валюта", "Комиссия Брокера", "Валюта", "Суммарная комиссия ТС"
+    };
+
+    private final String ticker;
+    private final int rows;
+    private final long seed;
+
+    public SyntheticStatements(String ticker, int rows, long seed) {
+        this.ticker = ticker.toUpperCase();
+        this.rows = rows;
+        this.seed = seed;
+    }
+
+    public byte[] toXls() throws IOException {
+
+        try (HSSFWorkbook workbook = new HSSFWorkbook();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+
+            Sheet sheet = workbook.createSheet();
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd.mm.yyyy hh:mm:ss"));
+
+            Row header = sheet.createRow(0);
+            for (int cell = 0; cell < HEADER.length; cell++)
+                header.createCell(cell).setCellValue(HEADER[cell]);
+
+            Random random = new Random(seed);
+            LocalDateTime dateTime = LocalDateTime.of(2023, 1, 9, 10, 0);
+
+            for (int r = 1; r <= rows; r++) {
+                dateTime = nextDateTime(random, dateTime);
+                boolean buy = isBuy(random);
+                double quantity = nextQuantity(random, buy), price = nextPrice(random);
+
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue(dateTime);
+                row.getCell(0).setCellStyle(dateStyle);
+                row.createCell(1).setCellValue(7586443614L + r);
+                row.createCell(2).setCellValue(35718959106L + r);
+                row.createCell(3).setCellValue(ticker);
+                row.createCell(4).setCellValue(ticker);
+                row.createCell(5).setCellValue("ФБ ММВБ");
+                row.createCell(6).setCellValue(buy ? "Купля" : "Продажа");
+                row.createCell(7).setCellValue(quantity);
+                row.createCell(8).setCellValue(price);
+                row.createCell(9).setCellValue("SUR");
+                row.createCell(10).setCellValue(quantity * price);
+                row.createCell(11).setCellValue(0);
+                row.createCell(12).setCellValue(0);
+                row.createCell(13).setCellValue("SUR");
+                row.createCell(14).setCellValue(brokerFee(quantity * price));
+                row.createCell(15).setCellValue("SUR");
+                row.createCell(16).setCellValue(tradeSystemFee(quantity * price));
+            }
+
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    public byte[] toCsv() {
+
+        StringBuilder csv = new StringBuilder(String.join(";", HEADER)).append("\r\n");
+        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+        Random random = new Random(seed);
+        LocalDateTime dateTime = LocalDateTime.of(2023, 1, 9, 10, 0);
+
+        for (int r = 1; r <= rows; r++) {
+            dateTime = nextDateTime(random, dateTime);
+            boolean buy = isBuy(random);
+            double quantity = nextQuantity(random, buy), price = nextPrice(random);
+
+            csv.append(dateTime.format(dtf)).append(';')
+                    .append(7586443614L + r).append(';')
+                    .append(35718959106L + r).append(';')
+                    .append(ticker).append(';')
+                    .append(ticker).append(';')
+                    .append("ФБ ММВБ").append(';')
+                    .append(buy ? "Купля" : "Продажа").append(';')
+                    .append(plain(quantity)).append(';')
+                    .append(plain(price)).append(';')
+                    .append("SUR").append(';')
+                    .append(plain(quantity * price)).append(';')
+                    .append("0;0;SUR;")
+                    .append(plain(brokerFee(quantity * price))).append(';')
+                    .append("SUR").append(';')
+                    .append(plain(tradeSystemFee(quantity * price))).append("\r\n");
+        }
+
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime nextDateTime(Random random, LocalDateTime dateTime) {
+        return dateTime.plusMinutes(1 + random.nextInt(360));
+    }
+
+    private static boolean isBuy(Random random) {
+        return random.nextInt(3) != 0;
+    }
+
+    private static double nextQuantity(Random random, boolean buy) {
+        return buy ? 1 + random.nextInt(20) : 1 + random.nextInt(10);
+    }
+
+    private static double nextPrice(Random random) {
+        return 14000 + random.nextInt(3000);
+    }
+
+    private static double brokerFee(double volume) {
+        return Math.round(volume * 0.06) / 100.0;
+    }
+
+    private static double tradeSystemFee(double volume) {
+        return Math.round(volume * 0.03) / 100.0;
+    }
+
+    private static String plain(double value) {
+        return BigDecimal.valueOf(value).toPlainString();
+    }
+}
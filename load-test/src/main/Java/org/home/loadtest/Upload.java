@@ -0,0 +1,61 @@
+package org.home.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A prebuilt {@code multipart/form-data} body for {@code POST /accountant/importXLS}, so the driver
+ * threads only copy bytes to the socket.
+ */
+public class Upload {
+
+    private static final String BOUNDARY = "----AccountantLoadTestBoundary";
+
+    private final String name;
+    private final byte[] body;
+    private final int statementSize;
+
+    private Upload(String name, byte[] body, int statementSize) {
+        this.name = name;
+        this.body = body;
+        this.statementSize = statementSize;
+    }
+
+    public static Upload of(String name, String fileName, byte[] statement, Map<String, String> params) {
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(statement.length + 1024);
+        try {
+            for (Map.Entry<String, String> param : params.entrySet())
+                body.write(("--" + BOUNDARY + "\r\n" +
+                        "Content-Disposition: form-data; name=\"" + param.getKey() + "\"\r\n\r\n" +
+                        param.getValue() + "\r\n").getBytes(StandardCharsets.UTF_8));
+            body.write(("--" + BOUNDARY + "\r\n" +
+                    "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n" +
+                    "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.write(statement);
+            body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return new Upload(name, body.toByteArray(), statement.length);
+    }
+
+    public static String getContentType() {
+        return "multipart/form-data; boundary=" + BOUNDARY;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public int getStatementSize() {
+        return statementSize;
+    }
+}
@@ -0,0 +1,36 @@
+package org.home.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Refreshes the pages served by {@link StubUpstreams} from the live sites:
+ * {@code UpstreamRecorder <resources dir> <ticker>...}.
+ */
+public class UpstreamRecorder {
+
+    private static final String INFLATION_DATA_URL = "https://www.statbureau.org/ru/russia/inflation-tables",
+            DIV_DATA_URL = "https://www.dohod.ru/ik/analytics/dividend/";
+
+    public static void main(String[] args) throws IOException {
+
+        File upstream = new File(args.length > 0 ? args[0] : "src/main/resources", "upstream");
+
+        record(INFLATION_DATA_URL, new File(upstream, "inflation-tables.html"));
+        for (int ticker = 1; ticker < args.length; ticker++)
+            record(DIV_DATA_URL + args[ticker].toLowerCase(),
+                    new File(upstream, "dividend/" + args[ticker].toLowerCase() + ".html"));
+    }
+
+    private static void record(String url, File page) throws IOException {
+        Files.createDirectories(page.getParentFile().toPath());
+        try (InputStream in = new URL(url).openConnection().getInputStream()) {
+            Files.copy(in, page.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        System.out.println(url + " -> " + page);
+    }
+}
@@ -1,5 +1,7 @@
 package org.home.controllers;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.home.models.Accountant;
 import org.home.models.Payment;
 import org.home.models.Stock;
@@ -26,6 +28,8 @@ import java.util.Locale;
 @RequestMapping("/accountant")
 public class AccountantController {
 
+    private static final Log log = LogFactory.getLog(AccountantController.class);
+
     @GetMapping
     public String askFile() {
         return "/accountant/import";
@@ -43,8 +47,9 @@ public class AccountantController {
             @RequestParam(value = "lotAfterSplit", required = false) Integer lotAfterSplit,
             Model model) {
 
-        File tempFile = new File("tmp_" + file.hashCode() + ".xls");
+        File tempFile = null;
         try {
+            tempFile = File.createTempFile("tmp_", ".statement");
             file.transferTo(tempFile);
             Accountant accountant = new Accountant(
                     new Stock(ticker, price, splitDate, splitRatio, lotAfterSplit),
@@ -85,8 +90,11 @@ public class AccountantController {
             model.addAttribute(
                     "averageSharePrice",
                     String.format(Locale.US, "%.2f", accountant.getAverageSharePrice()));
-        } catch (IOException ignored) {}
-        tempFile.deleteOnExit();
+        } catch (IOException ignored) {
+        } finally {
+            if (tempFile != null && !tempFile.delete())
+                log.warn("Could not delete uploaded statement " + tempFile);
+        }
         return "/accountant/showResult";
     }
 
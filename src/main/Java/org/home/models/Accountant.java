@@ -12,25 +12,23 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.home.statements.StatementFormats;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class  Accountant {
 
-    final int TRADE_DATE = 0, TICKER = 3, DIRECTION = 6, QUANTITY = 7, PRICE = 8,
-            VOLUME = 10, BROKER_FEE = 14, TRADE_SYSTEM_FEE = 16;
-
-    final String INFLATION_DATA_URL = "https://www.statbureau.org/ru/russia/inflation-tables",
-            DIV_DATA_URL ="https://www.dohod.ru/ik/analytics/dividend/";
+    final String INFLATION_DATA_URL = System.getProperty(
+                    "accountant.inflationDataUrl", "https://www.statbureau.org/ru/russia/inflation-tables"),
+            DIV_DATA_URL = System.getProperty(
+                    "accountant.divDataUrl", "https://www.dohod.ru/ik/analytics/dividend/");
 
     private final Stock stock;
     private final double tax;
     private final Map<Integer, List<Double>> inflation;
-    private Sheet tradesSheet;
+    private List<Trade> trades;
 
     public Accountant(Stock stock, double tax, Double extraInflation, File tradesDescriber, String... divsDescriber) {
 
@@ -39,13 +37,14 @@ public class  Accountant {
         this.inflation = getInflationMeasures(extraInflation);
 
         try {
-            tradesSheet = new HSSFWorkbook(Files.newInputStream(tradesDescriber.toPath())).getSheetAt(0);
+            trades = StatementFormats.forFile(tradesDescriber)
+                    .readTrades(tradesDescriber, stock.getTicker().toUpperCase());
             if (divsDescriber.length == 0)
                 parseDivDataFromHtml();
             else
                 parseDivDataFromFile(divsDescriber);
         } catch (IOException e) {
-            System.exit(1);
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -108,12 +107,12 @@ public class  Accountant {
         List<Payment> payments = new ArrayList<>();
 
         loop:
-            for (Row row : tradesSheet)
-                if (stock.getExDivDates().size() > 0 && isRowContainsTicker(row)) {
-                    while (getTradeDateTime(row).isAfter(stock.getExDivDates().get(exDivDatePointer))) {
+            for (Trade trade : trades)
+                if (stock.getExDivDates().size() > 0) {
+                    while (getTradeDateTime(trade).isAfter(stock.getExDivDates().get(exDivDatePointer))) {
                         if (stock.getSplitDate() != null &&
-                                (getTradeDateTime(row).isAfter(stock.getSplitDate()) ||
-                                getTradeDateTime(row).isEqual(stock.getSplitDate()))) {
+                                (getTradeDateTime(trade).isAfter(stock.getSplitDate()) ||
+                                getTradeDateTime(trade).isEqual(stock.getSplitDate()))) {
                             splitRatio = 1;
                             lot = stock.getLotAfterSplit();
                         }
@@ -128,7 +127,7 @@ public class  Accountant {
                         if (exDivDatePointer == stock.getExDivDates().size())
                             break loop;
                     }
-                    sharesQuantity += (getTradeSharesQuantity(row) * lot) / splitRatio;
+                    sharesQuantity += (getTradeSharesQuantity(trade) * lot) / splitRatio;
                 }
 
         while (exDivDatePointer < stock.getExDivDates().size()) {
@@ -151,10 +150,8 @@ public class  Accountant {
 
         double volume = 0;
 
-        for (Row row : tradesSheet) {
-            if (isRowContainsTicker(row))
-                volume += getTradeVolume(row) + getTradeFees(row);
-        }
+        for (Trade trade : trades)
+            volume += getTradeVolume(trade) + getTradeFees(trade);
 
         return -volume;
     }
@@ -166,27 +163,25 @@ public class  Accountant {
         double balance = 0;
         int currentPayment = 0;
 
-        for (Row row : tradesSheet) {
-            if (isRowContainsTicker(row)) {
-                if (tradeDayTime == null) {
-                    tradeDayTime = getTradeDateTime(row);
-                    balance = row.getCell(VOLUME).getNumericCellValue() + getTradeFees(row);
-                    continue;
-                }
-                while (currentPayment < payments.size() &&
-                        getTradeDateTime(row).
-                                    isAfter(currentPaymentDate = payments.get(currentPayment).getDate())) {
-                    balance = adjustWithInflationAndPayments(balance, tradeDayTime, payments.get(currentPayment++));
-                    tradeDayTime = currentPaymentDate;
-                }
-
-                balance += (balance / 100) *
-                        getDailyInflationBetween(tradeDayTime, getTradeDateTime(row)) *
-                        Duration.between(tradeDayTime, getTradeDateTime(row)).
-                                toMinutes() / (double) 1440;
-                balance += getTradeVolume(row) + getTradeFees(row);
-                tradeDayTime = getTradeDateTime(row);
+        for (Trade trade : trades) {
+            if (tradeDayTime == null) {
+                tradeDayTime = getTradeDateTime(trade);
+                balance = trade.getVolume() + getTradeFees(trade);
+                continue;
             }
+            while (currentPayment < payments.size() &&
+                    getTradeDateTime(trade).
+                                isAfter(currentPaymentDate = payments.get(currentPayment).getDate())) {
+                balance = adjustWithInflationAndPayments(balance, tradeDayTime, payments.get(currentPayment++));
+                tradeDayTime = currentPaymentDate;
+            }
+
+            balance += (balance / 100) *
+                    getDailyInflationBetween(tradeDayTime, getTradeDateTime(trade)) *
+                    Duration.between(tradeDayTime, getTradeDateTime(trade)).
+                            toMinutes() / (double) 1440;
+            balance += getTradeVolume(trade) + getTradeFees(trade);
+            tradeDayTime = getTradeDateTime(trade);
         }
 
         assert tradeDayTime != null;
@@ -279,27 +274,29 @@ public class  Accountant {
     }
 
     public double getAverageAmount() {
+        return getAverageAmount(LocalDateTime.now());
+    }
+
+    double getAverageAmount(LocalDateTime end) {
 
         double volume = 0, total = 0, result;
         int sharesQuantity = 0;
         LocalDateTime dateTime = null;
 
-        for (Row row : tradesSheet) {
-            if (isRowContainsTicker(row)) {
-                if (dateTime != null)
-                    total += volume * Duration.between(dateTime, getTradeDateTime(row)).toMinutes() / (double) 1440;
+        for (Trade trade : trades) {
+            if (dateTime != null)
+                total += volume * Duration.between(dateTime, getTradeDateTime(trade)).toMinutes() / (double) 1440;
 
-                dateTime = getTradeDateTime(row);
-                volume += getTradeVolume(row) + getTradeFees(row);
-                sharesQuantity += getTradeSharesQuantity(row);
-            }
+            dateTime = getTradeDateTime(trade);
+            volume += getTradeVolume(trade) + getTradeFees(trade);
+            sharesQuantity += getTradeSharesQuantity(trade);
         }
 
         assert dateTime != null;
 
         if (sharesQuantity != 0) {
-            total += volume * Duration.between(dateTime, LocalDateTime.now()).toMinutes() / (double) 1440;
-            result = total / (Duration.between(getFirstTradeDate(), LocalDateTime.now()).toMinutes() / (double) 1440);
+            total += volume * Duration.between(dateTime, end).toMinutes() / (double) 1440;
+            result = total / (Duration.between(getFirstTradeDate(), end).toMinutes() / (double) 1440);
         } else
             result = total / (Duration.between(getFirstTradeDate(), dateTime).toMinutes() / (double) 1440);
 
@@ -311,48 +308,35 @@ public class  Accountant {
         int sharesQuantity = 0, lot = getInitialLot();
         double splitRatio = stock.getSplitRatio();
 
-        for (Row row : tradesSheet)
-            if (isRowContainsTicker(row)) {
-                if (stock.getSplitDate() != null &&
-                        (getTradeDateTime(row).isAfter(stock.getSplitDate()) ||
-                                getTradeDateTime(row).isEqual(stock.getSplitDate()))) {
-                    splitRatio = 1;
-                    lot = stock.getLotAfterSplit();
-                }
-                sharesQuantity += (getTradeSharesQuantity(row) * lot) / splitRatio;
+        for (Trade trade : trades) {
+            if (stock.getSplitDate() != null &&
+                    (getTradeDateTime(trade).isAfter(stock.getSplitDate()) ||
+                            getTradeDateTime(trade).isEqual(stock.getSplitDate()))) {
+                splitRatio = 1;
+                lot = stock.getLotAfterSplit();
             }
+            sharesQuantity += (getTradeSharesQuantity(trade) * lot) / splitRatio;
+        }
 
         return sharesQuantity;
     }
 
     public LocalDateTime getFirstTradeDate() {
-        LocalDateTime firstTradeDate = null;
-        for (Row row : tradesSheet)
-            if (isRowContainsTicker(row)) {
-                firstTradeDate = getTradeDateTime(row);
-                break;
-            }
-        return firstTradeDate;
+        return trades.isEmpty() ? null : getTradeDateTime(trades.get(0));
     }
 
     public LocalDateTime getLastTradeDate() {
         LocalDateTime lastTradeDate = null;
-        for (Row row : tradesSheet)
-            if (isRowContainsTicker(row))
-                lastTradeDate = getTradeDateTime(row);
+        for (Trade trade : trades)
+            lastTradeDate = getTradeDateTime(trade);
         return lastTradeDate;
     }
 
     private int getInitialLot() {
-        int lot = 0;
-        for (Row row : tradesSheet)
-            if (isRowContainsTicker(row)) {
-                lot = (int) (row.getCell(VOLUME).getNumericCellValue() /
-                        row.getCell(PRICE).getNumericCellValue() /
-                        row.getCell(QUANTITY).getNumericCellValue());
-                break;
-            }
-        return lot;
+        if (trades.isEmpty())
+            return 0;
+        Trade trade = trades.get(0);
+        return (int) (trade.getVolume() / trade.getPrice() / trade.getQuantity());
     }
 
     private double adjustWithInflationAndPayments(double balance, LocalDateTime tradeDayTime, Payment payment) {
@@ -376,34 +360,32 @@ public class  Accountant {
                 getInflationAdjustedAmount() / getSharesBalance() : 0;
     }
 
-    private double getTradeFees(Row row) {
-        return row.getCell(BROKER_FEE).getNumericCellValue() +
-                row.getCell(TRADE_SYSTEM_FEE).getNumericCellValue();
+    private double getTradeFees(Trade trade) {
+        return trade.getFees();
+    }
+
+    private double getTradeVolume(Trade trade) {
+        return trade.getSignedVolume();
     }
 
-    private double getTradeVolume(Row row) {
-        return isRowContainsBuyTrade(row) ?
-                row.getCell(VOLUME).getNumericCellValue() : -row.getCell(VOLUME).getNumericCellValue();
+    private double getTradeSharesQuantity(Trade trade) {
+        return trade.getSignedQuantity();
     }
 
-    private double getTradeSharesQuantity(Row row) {
-        return isRowContainsBuyTrade(row) ?
-                row.getCell(QUANTITY).getNumericCellValue() : -row.getCell(QUANTITY).getNumericCellValue();
+    private LocalDateTime getTradeDateTime(Trade trade) {
+        return trade.getDateTime();
     }
 
-    private LocalDateTime getTradeDateTime(Row row) {
-        return row.getCell(TRADE_DATE).getLocalDateTimeCellValue();
+    Stock getStock() {
+        return stock;
     }
 
-    private boolean isRowContainsTicker(Row row) {
-        return row != null &&
-                row.getCell(TICKER) != null &&
-                row.getCell(TICKER).getCellType() == CellType.STRING &&
-                row.getCell(TICKER).getStringCellValue().equals(stock.getTicker().toUpperCase());
+    List<Trade> getTrades() {
+        return trades;
     }
 
-    private boolean isRowContainsBuyTrade(Row row) {
-        return row.getCell(DIRECTION).getStringCellValue().equals("Купля");
+    Map<Integer, List<Double>> getInflation() {
+        return inflation;
     }
 
 }
@@ -0,0 +1,68 @@
+package org.home.models;
+
+import java.util.Arrays;
+
+/**
+ * Percentile bands of the simulated inflation-adjusted amount and APY. Percentiles use the
+ * nearest-rank method over all paths.
+ */
+public class InflationScenarioBands {
+
+    private final double[] percentiles, adjustedAmounts, yields;
+    private final double meanAdjustedAmount, meanYield;
+    private final int paths;
+
+    InflationScenarioBands(double[] percentiles, double[] adjustedAmounts, double[] yields) {
+        this.paths = adjustedAmounts.length;
+        this.percentiles = percentiles.clone();
+        this.meanAdjustedAmount = Arrays.stream(adjustedAmounts).average().orElse(Double.NaN);
+        this.meanYield = Arrays.stream(yields).average().orElse(Double.NaN);
+
+        Arrays.parallelSort(adjustedAmounts);
+        Arrays.parallelSort(yields);
+        this.adjustedAmounts = new double[percentiles.length];
+        this.yields = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            this.adjustedAmounts[i] = nearestRank(adjustedAmounts, percentiles[i]);
+            this.yields[i] = nearestRank(yields, percentiles[i]);
+        }
+    }
+
+    public int getPaths() {
+        return paths;
+    }
+
+    public double[] getPercentiles() {
+        return percentiles.clone();
+    }
+
+    public double getAdjustedAmount(double percentile) {
+        return adjustedAmounts[indexOf(percentile)];
+    }
+
+    public double getAnnualPercentageYield(double percentile) {
+        return yields[indexOf(percentile)];
+    }
+
+    public double getMeanAdjustedAmount() {
+        return meanAdjustedAmount;
+    }
+
+    public double getMeanAnnualPercentageYield() {
+        return meanYield;
+    }
+
+    private int indexOf(double percentile) {
+        for (int i = 0; i < percentiles.length; i++)
+            if (percentiles[i] == percentile)
+                return i;
+        throw new IllegalArgumentException("Percentile " + percentile + " was not simulated");
+    }
+
+    private static double nearestRank(double[] sorted, double percentile) {
+        if (sorted.length == 0)
+            return Double.NaN;
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+}
@@ -0,0 +1,237 @@
+package org.home.models;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Distribution of {@link Accountant#getInflationAdjustedAmount()} and
+ * {@link Accountant#getAnnualPercentageYield()} when the position is held for {@code holdingMonths} more
+ * months and every month past the end of the inflation table is bootstrapped from the table itself.
+ *
+ * The trade/payment schedule, the historical part of every inflation average and the average amount
+ * do not depend on the inflation path, so they are computed once in the constructor. A path then costs
+ * one pass over the schedule using a per-thread buffer, and its random stream is seeded from the path
+ * index, so results don't depend on how the pool splits the work.
+ */
+public class InflationScenarioEngine {
+
+    private static final int LEAF_PATHS = 256;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final double[] history;
+    private final int futureMonths, blockLength;
+
+    private final double initialBalance;
+    private final double[] historicalSums, flows;
+    private final long[] minutes;
+    private final int[] monthCounts, futureFrom, futureTo;
+
+    private final double averageAmount, marketValue, holdingYears;
+
+    private final ThreadLocal<double[]> futurePrefix;
+
+    public InflationScenarioEngine(Accountant accountant, int holdingMonths, int blockLength) {
+
+        if (holdingMonths < 0)
+            throw new IllegalArgumentException("Negative holding period: " + holdingMonths);
+        if (blockLength <= 0)
+            throw new IllegalArgumentException("Block length must be positive: " + blockLength);
+        if (accountant.getTrades().isEmpty())
+            throw new IllegalStateException("No trades of " + accountant.getStock().getTicker());
+
+        Map<Integer, List<Double>> inflation = new TreeMap<>(accountant.getInflation());
+        if (inflation.isEmpty())
+            throw new IllegalStateException("No inflation history to bootstrap from");
+
+        int firstYear = inflation.keySet().iterator().next();
+        List<Double> months = new ArrayList<>();
+        inflation.values().forEach(months::addAll);
+        history = months.stream().mapToDouble(Double::doubleValue).toArray();
+
+        LocalDateTime end = LocalDateTime.now().plusMonths(holdingMonths);
+        int firstMonth = firstYear * 12, lastHistoricalMonth = firstMonth + history.length - 1;
+        int lastMonth = Math.max(lastHistoricalMonth, monthIndex(end));
+
+        this.futureMonths = lastMonth - lastHistoricalMonth;
+        this.blockLength = Math.min(blockLength, history.length);
+        this.futurePrefix = ThreadLocal.withInitial(() -> new double[futureMonths + 1]);
+
+        List<LocalDateTime[]> segments = new ArrayList<>();
+        List<Double> segmentFlows = new ArrayList<>();
+        initialBalance = buildSchedule(accountant, end, segments, segmentFlows);
+
+        int count = segments.size();
+        historicalSums = new double[count];
+        flows = new double[count];
+        minutes = new long[count];
+        monthCounts = new int[count];
+        futureFrom = new int[count];
+        futureTo = new int[count];
+
+        for (int segment = 0; segment < count; segment++) {
+            LocalDateTime start = segments.get(segment)[0], stop = segments.get(segment)[1];
+            int startMonth = monthIndex(start), stopMonth = Math.min(monthIndex(stop), lastMonth);
+
+            flows[segment] = segmentFlows.get(segment);
+            minutes[segment] = Duration.between(start, stop).toMinutes();
+            if (startMonth < firstMonth || startMonth > lastMonth)
+                continue;
+
+            double sum = 0;
+            for (int month = startMonth; month <= Math.min(stopMonth, lastHistoricalMonth); month++)
+                sum += history[month - firstMonth];
+            historicalSums[segment] = sum;
+            monthCounts[segment] = stopMonth - startMonth + 1;
+            futureFrom[segment] = Math.max(startMonth, lastHistoricalMonth + 1) - lastHistoricalMonth - 1;
+            futureTo[segment] = Math.max(stopMonth, lastHistoricalMonth) - lastHistoricalMonth;
+        }
+
+        int sharesBalance = accountant.getSharesBalance();
+        averageAmount = accountant.getAverageAmount(end);
+        marketValue = sharesBalance > 0 ? sharesBalance * accountant.getStock().getPrice() : 0;
+        holdingYears = Duration.between(
+                accountant.getFirstTradeDate(),
+                sharesBalance > 0 ? end : accountant.getLastTradeDate()
+        ).toDays() / 365.25;
+    }
+
+    /**
+     * Number of months past the inflation table that every path simulates.
+     */
+    public int getFutureMonths() {
+        return futureMonths;
+    }
+
+    public InflationScenarioBands simulate(int paths, long seed, double... percentiles) {
+        return simulate(paths, seed, ForkJoinPool.commonPool(), percentiles);
+    }
+
+    public InflationScenarioBands simulate(int paths, long seed, ForkJoinPool pool, double... percentiles) {
+        if (paths < 0)
+            throw new IllegalArgumentException("Negative number of paths: " + paths);
+        double[] adjustedAmounts = new double[paths], yields = new double[paths];
+        pool.invoke(new PathRange(seed, 0, paths, adjustedAmounts, yields));
+        return new InflationScenarioBands(percentiles, adjustedAmounts, yields);
+    }
+
+    private double evaluate(long seed, int path, double[] prefix) {
+
+        long state = mix(seed + (path + 1) * GOLDEN_GAMMA);
+        int blockStart = 0;
+        for (int month = 0; month < futureMonths; month++) {
+            if (month % blockLength == 0) {
+                state += GOLDEN_GAMMA;
+                blockStart = (int) (((mix(state) >>> 33) * (history.length - blockLength + 1)) >>> 31);
+            }
+            prefix[month + 1] = prefix[month] + history[blockStart + month % blockLength];
+        }
+
+        double balance = initialBalance;
+        for (int segment = 0; segment < flows.length; segment++) {
+            if (monthCounts[segment] > 0) {
+                double dailyInflation = (historicalSums[segment] + prefix[futureTo[segment]] -
+                        prefix[futureFrom[segment]]) / (monthCounts[segment] * 30.4375);
+                balance += (balance / 100) * dailyInflation * minutes[segment] / (double) 1440;
+            }
+            balance += flows[segment];
+        }
+
+        return balance;
+    }
+
+    private double getAnnualPercentageYield(double adjustedAmount) {
+        return 100 / (averageAmount / (marketValue - adjustedAmount)) / holdingYears;
+    }
+
+    /**
+     * Mirrors {@link Accountant#getInflationAdjustedAmount()}: each segment grows the balance with
+     * the inflation between its dates and is followed by a trade or a payment (or nothing for the tail
+     * up to {@code end}, which only exists while shares are held).
+     */
+    private static double buildSchedule(Accountant accountant, LocalDateTime end,
+                                        List<LocalDateTime[]> segments, List<Double> flows) {
+
+        List<Trade> trades = accountant.getTrades();
+        List<Payment> payments = accountant.getPayments();
+        LocalDateTime dateTime = trades.get(0).getDateTime();
+        double initialBalance = trades.get(0).getVolume() + trades.get(0).getFees();
+        int currentPayment = 0;
+
+        for (Trade trade : trades.subList(1, trades.size())) {
+            while (currentPayment < payments.size() &&
+                    trade.getDateTime().isAfter(payments.get(currentPayment).getDate())) {
+                segments.add(new LocalDateTime[] { dateTime, payments.get(currentPayment).getDate() });
+                flows.add(-payments.get(currentPayment).getTotalDouble());
+                dateTime = payments.get(currentPayment++).getDate();
+            }
+            segments.add(new LocalDateTime[] { dateTime, trade.getDateTime() });
+            flows.add(trade.getSignedVolume() + trade.getFees());
+            dateTime = trade.getDateTime();
+        }
+
+        while (currentPayment < payments.size()) {
+            segments.add(new LocalDateTime[] { dateTime, payments.get(currentPayment).getDate() });
+            flows.add(-payments.get(currentPayment).getTotalDouble());
+            dateTime = payments.get(currentPayment++).getDate();
+        }
+
+        if (accountant.getSharesBalance() > 0) {
+            segments.add(new LocalDateTime[] { dateTime, end });
+            flows.add(0.0);
+        }
+
+        return initialBalance;
+    }
+
+    private static int monthIndex(LocalDateTime dateTime) {
+        return dateTime.getYear() * 12 + dateTime.getMonthValue() - 1;
+    }
+
+    /**
+     * SplitMix64 finalizer: the path's random stream lives in a single {@code long}.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private final class PathRange extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long seed;
+        private final int from, to;
+        private final double[] adjustedAmounts, yields;
+
+        PathRange(long seed, int from, int to, double[] adjustedAmounts, double[] yields) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.adjustedAmounts = adjustedAmounts;
+            this.yields = yields;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_PATHS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new PathRange(seed, from, middle, adjustedAmounts, yields),
+                        new PathRange(seed, middle, to, adjustedAmounts, yields));
+                return;
+            }
+
+            double[] prefix = futurePrefix.get();
+            for (int path = from; path < to; path++) {
+                adjustedAmounts[path] = evaluate(seed, path, prefix);
+                yields[path] = getAnnualPercentageYield(adjustedAmounts[path]);
+            }
+        }
+    }
+}
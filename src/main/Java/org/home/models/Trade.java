@@ -0,0 +1,86 @@
+package org.home.models;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public class Trade {
+
+    private final LocalDateTime dateTime;
+    private final String ticker;
+    private final boolean buy;
+    private final double quantity, price, volume, brokerFee, tradeSystemFee;
+
+    public Trade(LocalDateTime dateTime, String ticker, boolean buy, double quantity, double price,
+                 double volume, double brokerFee, double tradeSystemFee) {
+        this.dateTime = dateTime;
+        this.ticker = ticker;
+        this.buy = buy;
+        this.quantity = quantity;
+        this.price = price;
+        this.volume = volume;
+        this.brokerFee = brokerFee;
+        this.tradeSystemFee = tradeSystemFee;
+    }
+
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    public boolean isBuy() {
+        return buy;
+    }
+
+    public double getQuantity() {
+        return quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public double getFees() {
+        return brokerFee + tradeSystemFee;
+    }
+
+    public double getSignedVolume() {
+        return buy ? volume : -volume;
+    }
+
+    public double getSignedQuantity() {
+        return buy ? quantity : -quantity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Trade)) return false;
+        Trade trade = (Trade) o;
+        return buy == trade.buy &&
+                Double.compare(quantity, trade.quantity) == 0 &&
+                Double.compare(price, trade.price) == 0 &&
+                Double.compare(volume, trade.volume) == 0 &&
+                Double.compare(brokerFee, trade.brokerFee) == 0 &&
+                Double.compare(tradeSystemFee, trade.tradeSystemFee) == 0 &&
+                dateTime.equals(trade.dateTime) &&
+                ticker.equals(trade.ticker);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dateTime, ticker, buy, quantity, price, volume, brokerFee, tradeSystemFee);
+    }
+
+    @Override
+    public String toString() {
+        return dateTime + " " + ticker + " " + (buy ? "buy " : "sell ") + quantity + " x " + price +
+                " = " + volume + " (fees " + brokerFee + " + " + tradeSystemFee + ")";
+    }
+}
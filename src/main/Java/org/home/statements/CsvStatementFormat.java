@@ -0,0 +1,538 @@
+package org.home.statements;
+
+import org.home.models.Trade;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import static org.home.statements.StatementLayout.Column.*;
+
+/**
+ * Reads delimited text statements straight from a memory-mapped file. Only the header line is decoded
+ * into strings; tickers, directions, numbers and dates of the trade rows are compared and parsed
+ * in place from the mapped bytes. The mapping is released as soon as the file is read, so the caller
+ * can delete it right away even on Windows.
+ *
+ * The charset is detected from the header: a UTF-8 BOM forces UTF-8, otherwise the first candidate
+ * charset that decodes a recognisable header wins (UTF-8, then windows-1251 by default). A pure ASCII
+ * header decodes the same in every candidate, so then the first data line with non-ASCII bytes decides.
+ */
+public class CsvStatementFormat implements StatementFormat {
+
+    private static final byte[] DELIMITERS = { ';', ',', '\t' };
+    private static final byte[] UTF8_BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+    private static final Charset WINDOWS_1251 = Charset.forName("windows-1251");
+    private static final List<String> GROUPINGS = Arrays.asList(" ", "\u00A0", "\u202F");
+    private static final int HEADER_SEARCH_LINES = 64;
+    private static final Pattern PLAIN_DECIMAL = Pattern.compile("-?\\d+([.,]\\d+)?([eE][-+]?\\d+)?");
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final Consumer<MappedByteBuffer> UNMAPPER = findUnmapper();
+
+    private final List<Charset> charsets;
+    private final int windowSize;
+
+    public CsvStatementFormat() {
+        this(StandardCharsets.UTF_8, WINDOWS_1251);
+    }
+
+    public CsvStatementFormat(Charset... charsets) {
+        this(Integer.MAX_VALUE, charsets);
+    }
+
+    CsvStatementFormat(int windowSize, Charset... charsets) {
+        if (charsets.length == 0)
+            throw new IllegalArgumentException("No charsets to try");
+        this.charsets = Collections.unmodifiableList(Arrays.asList(charsets.clone()));
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public boolean supports(byte[] head) {
+        if (head.length == 0)
+            return false;
+        for (byte b : head)
+            if (b == 0)
+                return false;
+        return true;
+    }
+
+    @Override
+    public List<Trade> readTrades(File statement, String ticker) throws IOException {
+        try (FileChannel channel = FileChannel.open(statement.toPath(), StandardOpenOption.READ)) {
+            return new Parser(channel, ticker).parse(statement.getName());
+        }
+    }
+
+    /**
+     * Finds the JDK hook that unmaps a buffer without waiting for the garbage collector:
+     * {@code Unsafe.invokeCleaner} since Java 9, {@code DirectBuffer.cleaner().clean()} before.
+     * If neither is reachable, mappings are left to the collector.
+     */
+    private static Consumer<MappedByteBuffer> findUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            return buffer -> invokeQuietly(invokeCleaner, unsafe, buffer);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+        }
+        try {
+            Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buffer -> invokeQuietly(clean, invokeQuietly(cleaner, buffer));
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+        }
+        return buffer -> { };
+    }
+
+    private static Object invokeQuietly(Method method, Object target, Object... args) {
+        if (target == null)
+            return null;
+        try {
+            return method.invoke(target, args);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private final class Parser {
+
+        private final FileChannel channel;
+        private final long size;
+        private final String ticker;
+        private final int[] dateGroups = new int[6], dateGroupLengths = new int[6];
+
+        private Charset charset;
+        private List<Charset> pendingCharsets;
+        private byte[] tickerBytes;
+        private byte[][] buyDirections, sellDirections, groupings;
+        private MappedByteBuffer buffer;
+        private long bufferPosition;
+        private int position, lineStart, lineEnd, lineNumber;
+        private byte delimiter, decimalSeparator;
+        private StatementLayout layout;
+        private int[] fieldStarts, fieldEnds;
+
+        Parser(FileChannel channel, String ticker) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.ticker = ticker;
+        }
+
+        List<Trade> parse(String name) throws IOException {
+            try {
+                return readTrades(name);
+            } finally {
+                unmap();
+            }
+        }
+
+        private List<Trade> readTrades(String name) throws IOException {
+
+            List<Trade> trades = new ArrayList<>();
+
+            map(0);
+            List<Charset> candidates = charsets;
+            if (startsWith(UTF8_BOM)) {
+                position = UTF8_BOM.length;
+                candidates = Collections.singletonList(StandardCharsets.UTF_8);
+            }
+
+            if (!findHeader(candidates))
+                throw new IOException("No trade header found in " + name);
+            encodeConstants();
+
+            fieldStarts = new int[layout.getWidth()];
+            fieldEnds = new int[layout.getWidth()];
+
+            while (nextLine()) {
+                if (pendingCharsets != null)
+                    settleCharset();
+                if (splitFields() < layout.getWidth() || !fieldEquals(layout.indexOf(TICKER), tickerBytes))
+                    continue;
+                try {
+                    trades.add(
+                            new Trade(
+                                    parseDateTime(layout.indexOf(TRADE_DATE)),
+                                    ticker,
+                                    isBuyDirection(layout.indexOf(DIRECTION)),
+                                    parseDecimal(layout.indexOf(QUANTITY)),
+                                    parseDecimal(layout.indexOf(PRICE)),
+                                    parseDecimal(layout.indexOf(VOLUME)),
+                                    parseDecimal(layout.indexOf(BROKER_FEE)),
+                                    parseDecimal(layout.indexOf(TRADE_SYSTEM_FEE))
+                            )
+                    );
+                } catch (IllegalArgumentException | DateTimeException e) {
+                    throw new IOException("Malformed trade at line " + lineNumber + " of " + name, e);
+                }
+            }
+
+            return trades;
+        }
+
+        private boolean findHeader(List<Charset> candidates) throws IOException {
+            for (int line = 0; line < HEADER_SEARCH_LINES && nextLine(); line++) {
+                for (Charset candidateCharset : candidates) {
+                    String header = decodeStrictly(lineStart, lineEnd, candidateCharset);
+                    if (header == null)
+                        continue;
+                    for (byte candidate : DELIMITERS) {
+                        StatementLayout detected = StatementLayout.detect(splitHeader(header, (char) candidate));
+                        if (detected != null) {
+                            charset = candidateCharset;
+                            if (isAscii(lineStart, lineEnd) && candidates.size() > 1)
+                                pendingCharsets = candidates;
+                            delimiter = candidate;
+                            decimalSeparator = candidate == ',' ? (byte) '.' : 0;
+                            layout = detected;
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Rows are matched byte by byte, so everything they are compared against is encoded once
+         * the charset is known.
+         */
+        private void encodeConstants() {
+            tickerBytes = ticker.getBytes(charset);
+            buyDirections = encode(StatementLayout.BUY_DIRECTIONS);
+            sellDirections = encode(StatementLayout.SELL_DIRECTIONS);
+            groupings = GROUPINGS.stream()
+                    .filter(grouping -> charset.newEncoder().canEncode(grouping))
+                    .map(grouping -> grouping.getBytes(charset))
+                    .toArray(byte[][]::new);
+        }
+
+        private byte[][] encode(List<String> values) {
+            return values.stream().map(value -> value.getBytes(charset)).toArray(byte[][]::new);
+        }
+
+        /**
+         * Picks the first pending charset that strictly decodes the current line, once the line has
+         * non-ASCII bytes to tell the candidates apart.
+         */
+        private void settleCharset() {
+            if (isAscii(lineStart, lineEnd))
+                return;
+            for (Charset candidate : pendingCharsets)
+                if (decodeStrictly(lineStart, lineEnd, candidate) != null) {
+                    charset = candidate;
+                    pendingCharsets = null;
+                    encodeConstants();
+                    return;
+                }
+        }
+
+        private boolean isAscii(int start, int end) {
+            for (int i = start; i < end; i++)
+                if (buffer.get(i) < 0)
+                    return false;
+            return true;
+        }
+
+        private void map(long filePosition) throws IOException {
+            unmap();
+            bufferPosition = filePosition;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, filePosition,
+                    Math.min(windowSize, size - filePosition));
+            position = 0;
+        }
+
+        /**
+         * Nothing may touch the buffer after this: reading an unmapped region crashes the JVM.
+         */
+        private void unmap() {
+            if (buffer != null) {
+                UNMAPPER.accept(buffer);
+                buffer = null;
+            }
+        }
+
+        private boolean nextLine() throws IOException {
+
+            if (bufferPosition + position >= size)
+                return false;
+
+            int end = indexOfLineEnd(position);
+            if (end == -1 && bufferPosition + buffer.limit() < size) {
+                map(bufferPosition + position);
+                end = indexOfLineEnd(0);
+                if (end == -1 && buffer.limit() < size - bufferPosition)
+                    throw new IOException("Line " + (lineNumber + 1) + " exceeds the mapping window");
+            }
+            if (end == -1)
+                end = buffer.limit();
+
+            lineStart = position;
+            lineEnd = end > lineStart && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            position = end + 1;
+            lineNumber++;
+            return true;
+        }
+
+        private int indexOfLineEnd(int from) {
+            for (int i = from; i < buffer.limit(); i++)
+                if (buffer.get(i) == '\n')
+                    return i;
+            return -1;
+        }
+
+        private int splitFields() {
+            int field = 0, start = lineStart;
+            boolean quoted = false;
+            for (int i = lineStart; i < lineEnd; i++) {
+                byte b = buffer.get(i);
+                if (b == '"')
+                    quoted = !quoted;
+                else if (b == delimiter && !quoted) {
+                    setField(field++, start, i);
+                    start = i + 1;
+                    if (field == fieldStarts.length)
+                        return field;
+                }
+            }
+            setField(field++, start, lineEnd);
+            return field;
+        }
+
+        private void setField(int field, int start, int end) {
+            while (start < end && buffer.get(start) == ' ')
+                start++;
+            while (end > start && buffer.get(end - 1) == ' ')
+                end--;
+            if (end - start >= 2 && buffer.get(start) == '"' && buffer.get(end - 1) == '"') {
+                start++;
+                end--;
+            }
+            fieldStarts[field] = start;
+            fieldEnds[field] = end;
+        }
+
+        private boolean fieldEquals(int field, byte[] value) {
+            int start = fieldStarts[field];
+            if (fieldEnds[field] - start != value.length)
+                return false;
+            for (int i = 0; i < value.length; i++)
+                if (buffer.get(start + i) != value[i])
+                    return false;
+            return true;
+        }
+
+        private boolean isBuyDirection(int field) {
+            for (byte[] direction : buyDirections)
+                if (fieldEquals(field, direction))
+                    return true;
+            for (byte[] direction : sellDirections)
+                if (fieldEquals(field, direction))
+                    return false;
+            throw new IllegalArgumentException(
+                    "Unknown trade direction: " + decode(fieldStarts[field], fieldEnds[field]));
+        }
+
+        /**
+         * The decimal separator is fixed once per file: '.' for comma-delimited statements, otherwise
+         * whichever of '.' and ',' the first fractional number uses. Only spaces, NBSP and narrow NBSP
+         * are skipped as digit grouping; anything else, as well as values with more than 53 bits of
+         * mantissa or 22 fraction digits, goes through {@link #parseDecimalSlowly}, which rejects
+         * malformed numbers instead of guessing.
+         */
+        private double parseDecimal(int field) {
+
+            int start = fieldStarts[field], end = fieldEnds[field];
+            if (start == end)
+                return 0;
+
+            long mantissa = 0;
+            int scale = 0;
+            boolean negative = false, digits = false, fraction = false;
+
+            for (int i = start; i < end; ) {
+                byte b = buffer.get(i);
+                if (b >= '0' && b <= '9') {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa > MAX_EXACT_MANTISSA)
+                        return parseDecimalSlowly(start, end);
+                    if (fraction)
+                        scale++;
+                    digits = true;
+                    i++;
+                } else if (b == '-' && i == start) {
+                    negative = true;
+                    i++;
+                } else if ((b == '.' || b == ',') && !fraction &&
+                        (decimalSeparator == 0 || b == decimalSeparator)) {
+                    decimalSeparator = b;
+                    fraction = true;
+                    i++;
+                } else {
+                    int grouping = fraction ? 0 : groupingLength(i, end);
+                    if (grouping == 0)
+                        return parseDecimalSlowly(start, end);
+                    i += grouping;
+                }
+            }
+
+            if (!digits)
+                throw new NumberFormatException("Not a number: " + decode(start, end));
+            if (scale >= POWERS_OF_TEN.length)
+                return parseDecimalSlowly(start, end);
+
+            double value = mantissa / POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+
+        /**
+         * {@link Double#parseDouble} alone would also take Java literals such as {@code 5d}, {@code 0x1p3}
+         * or {@code NaN}, so the value has to look like a plain decimal first.
+         */
+        private double parseDecimalSlowly(int start, int end) {
+            String value = decode(start, end).replaceAll("[ \\u00A0\\u202F]", "");
+            if (!PLAIN_DECIMAL.matcher(value).matches())
+                throw new NumberFormatException("Not a number: " + value);
+
+            int separator = Math.max(value.indexOf('.'), value.indexOf(','));
+            if (separator != -1) {
+                if (decimalSeparator == 0)
+                    decimalSeparator = (byte) value.charAt(separator);
+                else if (value.charAt(separator) != decimalSeparator)
+                    throw new NumberFormatException("Unexpected decimal separator: " + value);
+            }
+            return Double.parseDouble(value.replace(',', '.'));
+        }
+
+        private int groupingLength(int from, int end) {
+            for (byte[] grouping : groupings) {
+                if (end - from < grouping.length)
+                    continue;
+                int i = 0;
+                while (i < grouping.length && buffer.get(from + i) == grouping[i])
+                    i++;
+                if (i == grouping.length)
+                    return grouping.length;
+            }
+            return 0;
+        }
+
+        /**
+         * Reads up to six numeric groups: {@code dd.MM.yyyy} or {@code yyyy-MM-dd}, optionally followed
+         * by hours, minutes and seconds. Fractions of a second are ignored.
+         */
+        private LocalDateTime parseDateTime(int field) {
+
+            int start = fieldStarts[field], end = fieldEnds[field], groups = 0, value = 0, length = 0;
+
+            for (int i = start; i <= end; i++) {
+                byte b = i < end ? buffer.get(i) : 0;
+                if (b >= '0' && b <= '9') {
+                    value = value * 10 + (b - '0');
+                    length++;
+                } else if (length > 0) {
+                    if (groups < dateGroups.length) {
+                        dateGroups[groups] = value;
+                        dateGroupLengths[groups] = length;
+                    }
+                    groups++;
+                    value = 0;
+                    length = 0;
+                }
+            }
+
+            if (groups < 3)
+                throw new DateTimeException("Not a date: " + decode(start, end));
+
+            int year, month = dateGroups[1], day;
+            if (dateGroupLengths[0] == 4) {
+                year = dateGroups[0];
+                day = dateGroups[2];
+            } else {
+                day = dateGroups[0];
+                year = dateGroupLengths[2] <= 2 ? 2000 + dateGroups[2] : dateGroups[2];
+            }
+
+            return LocalDateTime.of(year, month, day,
+                    groups > 3 ? dateGroups[3] : 0,
+                    groups > 4 ? dateGroups[4] : 0,
+                    groups > 5 ? dateGroups[5] : 0);
+        }
+
+        private boolean startsWith(byte[] prefix) {
+            if (buffer.limit() < prefix.length)
+                return false;
+            for (int i = 0; i < prefix.length; i++)
+                if (buffer.get(i) != prefix[i])
+                    return false;
+            return true;
+        }
+
+        private String decode(int start, int end) {
+            return charset.decode(slice(start, end)).toString();
+        }
+
+        private String decodeStrictly(int start, int end, Charset candidate) {
+            try {
+                return candidate.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT)
+                        .decode(slice(start, end))
+                        .toString();
+            } catch (CharacterCodingException e) {
+                return null;
+            }
+        }
+
+        private ByteBuffer slice(int start, int end) {
+            ByteBuffer slice = buffer.duplicate();
+            // through Buffer: the covariant ByteBuffer overrides only exist since Java 9
+            ((Buffer) slice).limit(end).position(start);
+            return slice;
+        }
+    }
+
+    private static List<String> splitHeader(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"')
+                quoted = !quoted;
+            else if (c == delimiter && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else
+                field.append(c);
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,20 @@
+package org.home.statements;
+
+import org.home.models.Trade;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+public interface StatementFormat {
+
+    /**
+     * Tells whether a statement starting with the given bytes can be read by this format.
+     */
+    boolean supports(byte[] head);
+
+    /**
+     * Reads the trades of a single ticker in the order they appear in the statement.
+     */
+    List<Trade> readTrades(File statement, String ticker) throws IOException;
+}
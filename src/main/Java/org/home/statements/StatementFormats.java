@@ -0,0 +1,45 @@
+package org.home.statements;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class StatementFormats {
+
+    private static final int HEAD_LENGTH = 8;
+
+    private static final List<StatementFormat> FORMATS = Collections.unmodifiableList(Arrays.asList(
+            new XlsStatementFormat(),
+            new CsvStatementFormat()
+    ));
+
+    private StatementFormats() {}
+
+    public static List<StatementFormat> getFormats() {
+        return FORMATS;
+    }
+
+    /**
+     * Picks the format by the leading bytes of the file, so uploads don't depend on their file names.
+     */
+    public static StatementFormat forFile(File statement) throws IOException {
+        byte[] head = new byte[HEAD_LENGTH];
+        int read = 0;
+        try (InputStream in = Files.newInputStream(statement.toPath())) {
+            int count;
+            while (read < head.length && (count = in.read(head, read, head.length - read)) != -1)
+                read += count;
+        }
+        head = Arrays.copyOf(head, read);
+
+        for (StatementFormat format : FORMATS)
+            if (format.supports(head))
+                return format;
+
+        throw new IOException("Unsupported statement format: " + statement.getName());
+    }
+}
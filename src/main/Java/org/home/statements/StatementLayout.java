@@ -0,0 +1,102 @@
+package org.home.statements;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Maps the logical trade columns onto column indexes of a broker statement.
+ * A layout is detected once from the header row, so per-row parsing only does array lookups.
+ */
+public final class StatementLayout {
+
+    public enum Column {
+        TRADE_DATE("Дата и время заключения сделки", "Дата и время сделки", "Дата сделки", "Дата",
+                "Date", "Trade date", "DateTime"),
+        TICKER("Код инструмента", "Тикер", "Код", "Ticker", "Symbol", "Code"),
+        DIRECTION("Направление", "Вид сделки", "Операция", "Direction", "Side", "Operation"),
+        QUANTITY("Кол-во", "Количество", "Quantity", "Qty"),
+        PRICE("Цена", "Price"),
+        VOLUME("Объём", "Объем", "Сумма сделки", "Сумма", "Volume", "Amount"),
+        BROKER_FEE("Комиссия Брокера", "Комиссия брокера", "Broker fee", "Commission"),
+        TRADE_SYSTEM_FEE("Суммарная комиссия ТС", "Комиссия ТС", "Комиссия биржи", "Exchange fee",
+                "Trade system fee");
+
+        private final List<String> aliases;
+
+        Column(String... aliases) {
+            this.aliases = Collections.unmodifiableList(Arrays.asList(aliases));
+        }
+
+        public List<String> getAliases() {
+            return aliases;
+        }
+    }
+
+    public static final List<String> BUY_DIRECTIONS =
+            Collections.unmodifiableList(Arrays.asList("Купля", "Покупка", "Buy", "BUY", "B"));
+    public static final List<String> SELL_DIRECTIONS =
+            Collections.unmodifiableList(Arrays.asList("Продажа", "Sell", "SELL", "S"));
+
+    public static final StatementLayout DEFAULT = new StatementLayout(new int[] { 0, 3, 6, 7, 8, 10, 14, 16 });
+
+    private final int[] indexes;
+    private final int width;
+
+    private StatementLayout(int[] indexes) {
+        this.indexes = indexes;
+        this.width = Arrays.stream(indexes).max().getAsInt() + 1;
+    }
+
+    public int indexOf(Column column) {
+        return indexes[column.ordinal()];
+    }
+
+    /**
+     * Number of leading columns a row must have to carry every trade field.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the layout described by the header cells or {@code null} if some column is missing.
+     */
+    public static StatementLayout detect(List<String> header) {
+        int[] indexes = new int[Column.values().length];
+        Arrays.fill(indexes, -1);
+
+        for (int cell = 0; cell < header.size(); cell++) {
+            String name = header.get(cell) == null ? "" : header.get(cell).trim();
+            for (Column column : Column.values())
+                if (indexes[column.ordinal()] == -1 && isAliasOf(column, name)) {
+                    indexes[column.ordinal()] = cell;
+                    break;
+                }
+        }
+
+        for (int index : indexes)
+            if (index == -1)
+                return null;
+
+        return new StatementLayout(indexes);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the direction is neither a known buy nor a known sell
+     */
+    public static boolean isBuyDirection(String direction) {
+        if (BUY_DIRECTIONS.contains(direction.trim()))
+            return true;
+        if (SELL_DIRECTIONS.contains(direction.trim()))
+            return false;
+        throw new IllegalArgumentException("Unknown trade direction: " + direction);
+    }
+
+    private static boolean isAliasOf(Column column, String name) {
+        for (String alias : column.getAliases())
+            if (alias.equalsIgnoreCase(name))
+                return true;
+        return false;
+    }
+}
@@ -0,0 +1,101 @@
+package org.home.statements;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.home.models.Trade;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.home.statements.StatementLayout.Column.*;
+
+/**
+ * Reads the first sheet of an HSSF workbook. Statements without a recognizable header
+ * fall back to {@link StatementLayout#DEFAULT}.
+ */
+public class XlsStatementFormat implements StatementFormat {
+
+    private static final byte[] OLE2_SIGNATURE =
+            { (byte) 0xD0, (byte) 0xCF, (byte) 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, (byte) 0x1A, (byte) 0xE1 };
+
+    @Override
+    public boolean supports(byte[] head) {
+        if (head.length < OLE2_SIGNATURE.length)
+            return false;
+        for (int i = 0; i < OLE2_SIGNATURE.length; i++)
+            if (head[i] != OLE2_SIGNATURE[i])
+                return false;
+        return true;
+    }
+
+    @Override
+    public List<Trade> readTrades(File statement, String ticker) throws IOException {
+
+        List<Trade> trades = new ArrayList<>();
+
+        try (InputStream in = Files.newInputStream(statement.toPath());
+             HSSFWorkbook workbook = new HSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            StatementLayout layout = detectLayout(sheet);
+
+            for (Row row : sheet) {
+                if (!isRowContainsTicker(row, layout, ticker))
+                    continue;
+                try {
+                    trades.add(
+                            new Trade(
+                                    row.getCell(layout.indexOf(TRADE_DATE)).getLocalDateTimeCellValue(),
+                                    ticker,
+                                    StatementLayout.isBuyDirection(
+                                            row.getCell(layout.indexOf(DIRECTION)).getStringCellValue()
+                                    ),
+                                    getNumericValue(row, layout.indexOf(QUANTITY)),
+                                    getNumericValue(row, layout.indexOf(PRICE)),
+                                    getNumericValue(row, layout.indexOf(VOLUME)),
+                                    getNumericValue(row, layout.indexOf(BROKER_FEE)),
+                                    getNumericValue(row, layout.indexOf(TRADE_SYSTEM_FEE))
+                            )
+                    );
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(
+                            "Malformed trade at row " + (row.getRowNum() + 1) + " of " + statement.getName(), e);
+                }
+            }
+        }
+
+        return trades;
+    }
+
+    private StatementLayout detectLayout(Sheet sheet) {
+        for (Row row : sheet) {
+            List<String> header = new ArrayList<>();
+            for (int cell = 0; cell < row.getLastCellNum(); cell++) {
+                Cell headerCell = row.getCell(cell);
+                header.add(headerCell != null && headerCell.getCellType() == CellType.STRING ?
+                        headerCell.getStringCellValue() : "");
+            }
+            StatementLayout layout = StatementLayout.detect(header);
+            if (layout != null)
+                return layout;
+        }
+        return StatementLayout.DEFAULT;
+    }
+
+    private double getNumericValue(Row row, int cell) {
+        return row.getCell(cell) != null ? row.getCell(cell).getNumericCellValue() : 0;
+    }
+
+    private boolean isRowContainsTicker(Row row, StatementLayout layout, String ticker) {
+        return row != null &&
+                row.getCell(layout.indexOf(TICKER)) != null &&
+                row.getCell(layout.indexOf(TICKER)).getCellType() == CellType.STRING &&
+                row.getCell(layout.indexOf(TICKER)).getStringCellValue().equals(ticker);
+    }
+}
@@ -0,0 +1,153 @@
+package org.home.models;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.YearMonth;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+public class InflationScenarioEngineTest extends TestCase {
+
+    private static final File FIXTURES = new File("doc/stock_split_examples");
+    private static final double[] PERCENTILES = { 5, 50, 95 };
+
+    private File inflationPage;
+    private String inflationDataUrl;
+
+    /**
+     * Serves an inflation table that reaches the current month through {@code accountant.inflationDataUrl},
+     * so no path has to bootstrap a month unless the position is held further.
+     */
+    @Override
+    protected void setUp() throws IOException {
+        inflationPage = File.createTempFile("inflation-tables", ".html");
+        Files.write(inflationPage.toPath(), inflationTables(YearMonth.now()).getBytes(StandardCharsets.UTF_8));
+        inflationDataUrl = System.setProperty("accountant.inflationDataUrl", inflationPage.toURI().toString());
+    }
+
+    @Override
+    protected void tearDown() {
+        if (inflationDataUrl == null)
+            System.clearProperty("accountant.inflationDataUrl");
+        else
+            System.setProperty("accountant.inflationDataUrl", inflationDataUrl);
+        assertTrue(inflationPage.delete());
+    }
+
+    public void testMatchesAccountantWithoutFutureMonths() {
+        for (Accountant accountant : new Accountant[] { vtbr(), gmkn() }) {
+            InflationScenarioEngine engine = new InflationScenarioEngine(accountant, 0, 12);
+            assertEquals(0, engine.getFutureMonths());
+
+            InflationScenarioBands bands = engine.simulate(1000, 1, PERCENTILES);
+            double adjustedAmount = accountant.getInflationAdjustedAmount(),
+                    yield = accountant.getAnnualPercentageYield();
+            for (double percentile : PERCENTILES) {
+                assertEquals(adjustedAmount, bands.getAdjustedAmount(percentile), Math.abs(adjustedAmount) * 1e-6);
+                assertEquals(yield, bands.getAnnualPercentageYield(percentile), Math.abs(yield) * 1e-6);
+            }
+        }
+    }
+
+    public void testResultsDoNotDependOnPoolSize() {
+        InflationScenarioEngine engine = new InflationScenarioEngine(gmkn(), 24, 6);
+        assertEquals(24, engine.getFutureMonths());
+
+        ForkJoinPool single = new ForkJoinPool(1), four = new ForkJoinPool(4);
+        try {
+            InflationScenarioBands expected = engine.simulate(5000, 42, single, PERCENTILES);
+            assertSameBands(expected, engine.simulate(5000, 42, four, PERCENTILES));
+            assertSameBands(expected, engine.simulate(5000, 42, PERCENTILES));
+        } finally {
+            single.shutdown();
+            four.shutdown();
+        }
+    }
+
+    public void testSeedReproducesPaths() {
+        InflationScenarioEngine engine = new InflationScenarioEngine(vtbr(), 36, 12);
+        InflationScenarioBands bands = engine.simulate(2000, 7, PERCENTILES);
+
+        assertSameBands(bands, engine.simulate(2000, 7, PERCENTILES));
+        assertSameBands(bands, new InflationScenarioEngine(vtbr(), 36, 12).simulate(2000, 7, PERCENTILES));
+        assertTrue(bands.getAdjustedAmount(5) < bands.getAdjustedAmount(95));
+        assertFalse(bands.getMeanAdjustedAmount() == engine.simulate(2000, 8, PERCENTILES).getMeanAdjustedAmount());
+    }
+
+    public void testRejectsInvalidArguments() {
+        Accountant accountant = gmkn();
+        try {
+            new InflationScenarioEngine(accountant, -1, 12);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new InflationScenarioEngine(accountant, 12, 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new InflationScenarioEngine(accountant, 12, 12).simulate(-1, 1, PERCENTILES);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static void assertSameBands(InflationScenarioBands expected, InflationScenarioBands actual) {
+        assertEquals(expected.getPaths(), actual.getPaths());
+        assertEquals(expected.getMeanAdjustedAmount(), actual.getMeanAdjustedAmount(), 0);
+        assertEquals(expected.getMeanAnnualPercentageYield(), actual.getMeanAnnualPercentageYield(), 0);
+        for (double percentile : PERCENTILES) {
+            assertEquals(expected.getAdjustedAmount(percentile), actual.getAdjustedAmount(percentile), 0);
+            assertEquals(expected.getAnnualPercentageYield(percentile), actual.getAnnualPercentageYield(percentile), 0);
+        }
+    }
+
+    private static Accountant vtbr() {
+        return new Accountant(new Stock("vtbr", 81, "2024-07-11", 5000.0, 1), 13, null,
+                new File(FIXTURES, "vtbr/vtbr.xls"), new File(FIXTURES, "vtbr/divs.xls").getPath());
+    }
+
+    private static Accountant gmkn() {
+        return new Accountant(new Stock("gmkn", 112, "2024-04-04", 0.01, 10), 13, null,
+                new File(FIXTURES, "gmkn/gmkn_example.xls"), new File(FIXTURES, "gmkn/divs.xls").getPath());
+    }
+
+    /**
+     * Mimics the statbureau.org rows {@link Accountant} scrapes: a year link, the monthly cells, a total cell
+     * and enough markup without {@code d,d} pairs that one row's snippet never reaches the next row.
+     */
+    private static String inflationTables(YearMonth last) {
+
+        StringBuilder page = new StringBuilder("<html><body><table>");
+        String caption = "<td class=\"note\">" + repeat("Инфляция по месяцам. ", 8) + "</td>",
+                chart = "<td class=\"chart\">" + repeat("<span class=\"month-tick\">-</span>", 40) + "</td>";
+
+        for (int year = last.getYear(); year >= 2015; year--) {
+            int months = year == last.getYear() ? last.getMonthValue() : 12;
+            double total = 0;
+            page.append("<tr><td class=\"year\"><a href=\"/ru/russia/inflation/").append(year).append("\">")
+                    .append(year).append("</a></td>").append(caption);
+            for (int month = 1; month <= months; month++) {
+                double value = 0.1 + (year * 7 + month * 3) % 11 / 10.0;
+                total += value;
+                page.append("<td>").append(String.format(Locale.US, "%.2f", value).replace('.', ',')).append("</td>");
+            }
+            page.append("<td class=\"total\">").append(String.format(Locale.US, "%.2f", total).replace('.', ','))
+                    .append("</td>").append(chart).append("</tr>");
+        }
+
+        return page.append("</table></body></html>").toString();
+    }
+
+    private static String repeat(String text, int count) {
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < count; i++)
+            repeated.append(text);
+        return repeated.toString();
+    }
+}
@@ -0,0 +1,230 @@
+package org.home.statements;
+
+import junit.framework.TestCase;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.home.models.Trade;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CsvStatementFormatTest extends TestCase {
+
+    private static final File FIXTURES = new File("doc/stock_split_examples");
+    private static final Charset WINDOWS_1251 = Charset.forName("windows-1251");
+    private static final String HEADER =
+            "Дата;Тикер;Направление;Кол-во;Цена;Объём;Комиссия брокера;Комиссия ТС\r\n";
+
+    private final List<File> files = new ArrayList<>();
+
+    @Override
+    protected void tearDown() {
+        for (File file : files)
+            assertTrue("could not delete " + file, file.delete());
+    }
+
+    public void testConvertedFixturesMatchXls() throws IOException {
+        for (String[] fixture : new String[][] { { "vtbr/vtbr.xls", "VTBR" }, { "gmkn/gmkn_example.xls", "GMKN" } }) {
+            File xls = new File(FIXTURES, fixture[0]);
+            List<Trade> expected = new XlsStatementFormat().readTrades(xls, fixture[1]);
+            assertFalse(expected.isEmpty());
+
+            File semicolons = write(toCsv(xls, ";", ','), WINDOWS_1251),
+                    commas = write("\uFEFF" + toCsv(xls, ",", '.'), StandardCharsets.UTF_8),
+                    tabs = write(toCsv(xls, "\t", ','), StandardCharsets.UTF_8);
+
+            for (File csv : Arrays.asList(semicolons, commas, tabs)) {
+                StatementFormat format = StatementFormats.forFile(csv);
+                assertTrue(format instanceof CsvStatementFormat);
+                assertEquals(fixture[0], expected, format.readTrades(csv, fixture[1]));
+            }
+        }
+    }
+
+    public void testSmallWindowIsRemapped() throws IOException {
+        File xls = new File(FIXTURES, "vtbr/vtbr.xls");
+        File csv = write(toCsv(xls, ";", ','), StandardCharsets.UTF_8);
+        int window = 4096;
+        assertTrue(csv.length() > 4 * window);
+
+        assertEquals(new XlsStatementFormat().readTrades(xls, "VTBR"),
+                new CsvStatementFormat(window, StandardCharsets.UTF_8).readTrades(csv, "VTBR"));
+    }
+
+    public void testLineLongerThanWindowIsRejected() throws IOException {
+        File csv = write(HEADER + "01.02.2024;VTBR;Купля;1;0,02;0,02;0;0\r\n", StandardCharsets.UTF_8);
+        try {
+            new CsvStatementFormat(32, StandardCharsets.UTF_8).readTrades(csv, "VTBR");
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("exceeds the mapping window"));
+        }
+    }
+
+    public void testBomCrlfAndQuotedFields() throws IOException {
+        File csv = write("\uFEFFОтчёт брокера\r\n\r\n" +
+                "\"Объём\";\"Код инструмента\";\"Краткое наименование\";\"Направление\";\"Кол-во\";\"Цена\";" +
+                "\"Комиссия Брокера\";\"Суммарная комиссия ТС\";\"Дата и время заключения сделки\"\r\n" +
+                "\"20,00\";\"VTBR\";\"ВТБ; ао\";\"Купля\";\"1 000\";\"0,02\";\"0,01\";\"0\";\"02.01.2024 10:15:30\"\r\n" +
+                "\"6\";\"GMKN\";\"Норникель\";\"Купля\";\"1\";\"6\";\"0\";\"0\";\"02.01.2024 10:16:00\"\r\n" +
+                "\"10\";\"VTBR\";\"ВТБ; ао\";\"Продажа\";\"500\";\"0,02\";\"0,01\";\"0,01\";\"2024-01-03 11:00:00\"", // no final CRLF
+                StandardCharsets.UTF_8);
+
+        assertEquals(
+                Arrays.asList(
+                        new Trade(LocalDateTime.of(2024, 1, 2, 10, 15, 30), "VTBR", true, 1000, 0.02, 20, 0.01, 0),
+                        new Trade(LocalDateTime.of(2024, 1, 3, 11, 0), "VTBR", false, 500, 0.02, 10, 0.01, 0.01)
+                ),
+                StatementFormats.forFile(csv).readTrades(csv, "VTBR")
+        );
+    }
+
+    public void testWindows1251IsDetected() throws IOException {
+        File csv = write(HEADER + "01.02.2024;VTBR;Купля;1\u00A0000;0,02;20;0;0\r\n", WINDOWS_1251);
+
+        assertEquals(
+                Arrays.asList(new Trade(LocalDateTime.of(2024, 2, 1, 0, 0), "VTBR", true, 1000, 0.02, 20, 0, 0)),
+                new CsvStatementFormat().readTrades(csv, "VTBR")
+        );
+        try {
+            new CsvStatementFormat(StandardCharsets.UTF_8).readTrades(csv, "VTBR");
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("No trade header found"));
+        }
+    }
+
+    public void testAsciiHeaderLeavesCharsetToData() throws IOException {
+        String text = "Date;Ticker;Direction;Quantity;Price;Volume;Commission;Exchange fee\r\n" +
+                "01.02.2024;VTBR;Buy;1;1;1;0;0\r\n" +
+                "02.02.2024;VTBR;Купля;2;1;2;0;0\r\n" +
+                "03.02.2024;VTBR;Продажа;1;1;1;0;0\r\n";
+        List<Trade> expected = Arrays.asList(
+                new Trade(LocalDateTime.of(2024, 2, 1, 0, 0), "VTBR", true, 1, 1, 1, 0, 0),
+                new Trade(LocalDateTime.of(2024, 2, 2, 0, 0), "VTBR", true, 2, 1, 2, 0, 0),
+                new Trade(LocalDateTime.of(2024, 2, 3, 0, 0), "VTBR", false, 1, 1, 1, 0, 0)
+        );
+
+        assertEquals(expected, new CsvStatementFormat().readTrades(write(text, StandardCharsets.UTF_8), "VTBR"));
+        assertEquals(expected, new CsvStatementFormat().readTrades(write(text, WINDOWS_1251), "VTBR"));
+    }
+
+    public void testUnknownDirectionIsRejected() throws IOException {
+        File csv = write(HEADER + "01.02.2024;VTBR;Перевод;1;1;1;0;0\r\n", StandardCharsets.UTF_8);
+        try {
+            fail("read as " + new CsvStatementFormat().readTrades(csv, "VTBR"));
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Malformed trade"));
+            assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains("Перевод"));
+        }
+    }
+
+    public void testNumberFormats() throws IOException {
+        assertQuantity(1000, "1 000");
+        assertQuantity(1000, "1\u00A0000");
+        assertQuantity(1000, "1\u202F000");
+        assertQuantity(-5, "-5");
+        assertQuantity(12.5, "12,5");
+        assertQuantity(12.5, "12.5");
+        assertQuantity(0, "");
+        assertQuantity(1e-30, "0," + repeat('0', 29) + "1");
+        assertQuantity(12345678901234567890.0, "12345678901234567890");
+        assertQuantity(1500, "1,5e3");
+    }
+
+    public void testMalformedNumbersAreRejected() throws IOException {
+        assertMalformed(HEADER + row("12руб"));
+        assertMalformed(HEADER + row("\u22125"));
+        assertMalformed(HEADER + row("5-"));
+        assertMalformed(HEADER + row("1,2,3"));
+        assertMalformed(HEADER + row("-"));
+        assertMalformed(HEADER + row("5d"));
+        assertMalformed(HEADER + row("12f"));
+        assertMalformed(HEADER + row("0x1p3"));
+        assertMalformed(HEADER + row("NaN"));
+        assertMalformed(HEADER + row("Infinity"));
+        assertMalformed(HEADER + row("-Infinity"));
+        assertMalformed(HEADER + row("0,5") + row("20.5"));
+        assertMalformed(HEADER + row("20.5") + row("0,5"));
+        assertMalformed(HEADER.replace(';', ',') + row("\"1,000\"").replace(';', ','));
+    }
+
+    private void assertQuantity(double expected, String quantity) throws IOException {
+        File csv = write(HEADER + row(quantity), StandardCharsets.UTF_8);
+        assertEquals(quantity, expected, new CsvStatementFormat().readTrades(csv, "VTBR").get(0).getQuantity(), 0);
+    }
+
+    private void assertMalformed(String text) throws IOException {
+        File csv = write(text, StandardCharsets.UTF_8);
+        try {
+            fail(text + " read as " + new CsvStatementFormat().readTrades(csv, "VTBR"));
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Malformed trade"));
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+    }
+
+    private static String row(String quantity) {
+        return "01.02.2024;VTBR;Купля;" + quantity + ";1;1;0;0\r\n";
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    /**
+     * Writes every row of the first sheet: text cells quoted, dates in the broker's format and
+     * numbers in plain notation with the given decimal separator.
+     */
+    private static String toCsv(File xls, String delimiter, char decimalSeparator) throws IOException {
+
+        StringBuilder csv = new StringBuilder();
+        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+
+        try (InputStream in = Files.newInputStream(xls.toPath());
+             HSSFWorkbook workbook = new HSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                List<String> fields = new ArrayList<>();
+                for (int c = 0; c < row.getLastCellNum(); c++) {
+                    Cell cell = row.getCell(c);
+                    if (cell == null || cell.getCellType() == CellType.BLANK)
+                        fields.add("");
+                    else if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell))
+                        fields.add(cell.getLocalDateTimeCellValue().format(dtf));
+                    else if (cell.getCellType() == CellType.NUMERIC)
+                        fields.add(new BigDecimal(Double.toString(cell.getNumericCellValue())).toPlainString()
+                                .replace('.', decimalSeparator));
+                    else
+                        fields.add('"' + cell.toString().replace("\"", "") + '"');
+                }
+                csv.append(String.join(delimiter, fields)).append("\r\n");
+            }
+        }
+
+        return csv.toString();
+    }
+
+    private File write(String text, Charset charset) throws IOException {
+        File file = File.createTempFile("statement", ".csv");
+        files.add(file);
+        Files.write(file.toPath(), text.getBytes(charset));
+        return file;
+    }
+}
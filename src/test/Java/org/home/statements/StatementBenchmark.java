@@ -0,0 +1,166 @@
+package org.home.statements;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.home.models.Trade;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares the POI and the memory-mapped CSV readers on the same synthetic statement. Lives with the tests,
+ * so it stays out of the war:
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.home.statements.StatementBenchmark -Dexec.args="60000 10"
+ * </pre>
+ *
+ * Arguments: {@code [rows] [iterations]}; HSSF caps a sheet at 65536 rows.
+ */
+public class StatementBenchmark {
+
+    private static final String TICKER = "VTBR";
+    private static final String[] HEADER = {
+            "Дата и время заключения сделки", "Номер сделки", "Номер заявки", "Код инструмента",
+            "Краткое наименование инструмента", "Рынок", "Направление", "Кол-во", "Цена", "Валюта",
+            "Объём", "НКД", "Доходность", "Валюта", "Комиссия Брокера", "Валюта", "Суммарная комиссия ТС"
+    };
+
+    public static void main(String[] args) throws IOException {
+
+        int rows = args.length > 0 ? Math.min(Integer.parseInt(args[0]), 65535) : 60000,
+                iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        File xls = File.createTempFile("statement", ".xls"), csv = File.createTempFile("statement", ".csv");
+        xls.deleteOnExit();
+        csv.deleteOnExit();
+        writeStatements(rows, xls, csv);
+
+        StatementFormat xlsFormat = StatementFormats.forFile(xls), csvFormat = StatementFormats.forFile(csv);
+        List<Trade> xlsTrades = xlsFormat.readTrades(xls, TICKER), csvTrades = csvFormat.readTrades(csv, TICKER);
+        if (!xlsTrades.equals(csvTrades))
+            throw new IllegalStateException("CSV and XLS statements produced different trades");
+
+        System.out.printf(Locale.US, "%d rows, %d trades of %s, xls %d KB, csv %d KB%n",
+                rows, xlsTrades.size(), TICKER, xls.length() / 1024, csv.length() / 1024);
+        report("xls (POI)", xlsFormat, xls, rows, iterations);
+        report("csv (mmap)", csvFormat, csv, rows, iterations);
+    }
+
+    private static void report(String name, StatementFormat format, File statement, int rows, int iterations)
+            throws IOException {
+
+        for (int i = 0; i < iterations; i++)
+            format.readTrades(statement, TICKER);
+
+        long best = Long.MAX_VALUE, total = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            format.readTrades(statement, TICKER);
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+
+        System.out.printf(Locale.US, "%-10s best %8.2f ms, mean %8.2f ms, %,12.0f rows/s%n",
+                name, best / 1e6, total / 1e6 / iterations, rows / (best / 1e9));
+    }
+
+    private static void writeStatements(int rows, File xls, File csv) throws IOException {
+
+        Random random = new Random(42);
+        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+        LocalDateTime dateTime = LocalDateTime.of(2020, 7, 31, 10, 0);
+
+        try (HSSFWorkbook workbook = new HSSFWorkbook();
+             OutputStream xlsOut = Files.newOutputStream(xls.toPath());
+             Writer csvOut = Files.newBufferedWriter(csv.toPath(), StandardCharsets.UTF_8)) {
+
+            Sheet sheet = workbook.createSheet();
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd.mm.yyyy hh:mm:ss"));
+
+            Row header = sheet.createRow(0);
+            for (int cell = 0; cell < HEADER.length; cell++)
+                header.createCell(cell).setCellValue(HEADER[cell]);
+            csvOut.write(String.join(";", HEADER));
+            csvOut.write("\r\n");
+
+            for (int r = 1; r <= rows; r++) {
+                dateTime = dateTime.plusSeconds(60 + random.nextInt(86400));
+                String ticker = random.nextInt(4) == 0 ? "GMKN" : TICKER,
+                        direction = random.nextInt(3) == 0 ? "Продажа" : "Купля";
+                double quantity = 1 + random.nextInt(100),
+                        price = cents(0.03 + random.nextDouble()),
+                        volume = cents(quantity * price * 1000),
+                        brokerFee = cents(volume * 0.0006),
+                        tradeSystemFee = cents(volume * 0.0001);
+
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue(dateTime);
+                row.getCell(0).setCellStyle(dateStyle);
+                row.createCell(1).setCellValue(3250415376L + r);
+                row.createCell(2).setCellValue(20865719714L + r);
+                row.createCell(3).setCellValue(ticker);
+                row.createCell(4).setCellValue(ticker + " ао");
+                row.createCell(5).setCellValue("ФБ ММВБ");
+                row.createCell(6).setCellValue(direction);
+                row.createCell(7).setCellValue(quantity);
+                row.createCell(8).setCellValue(price);
+                row.createCell(9).setCellValue("SUR");
+                row.createCell(10).setCellValue(volume);
+                row.createCell(11).setCellValue(0);
+                row.createCell(12).setCellValue(0);
+                row.createCell(13).setCellValue("SUR");
+                row.createCell(14).setCellValue(brokerFee);
+                row.createCell(15).setCellValue("SUR");
+                row.createCell(16).setCellValue(tradeSystemFee);
+
+                List<String> fields = new ArrayList<>();
+                fields.add(dateTime.format(dtf));
+                fields.add(String.valueOf(3250415376L + r));
+                fields.add(String.valueOf(20865719714L + r));
+                fields.add(ticker);
+                fields.add(ticker + " ао");
+                fields.add("ФБ ММВБ");
+                fields.add(direction);
+                fields.add(plain(quantity));
+                fields.add(plain(price));
+                fields.add("SUR");
+                fields.add(plain(volume));
+                fields.add("0");
+                fields.add("0");
+                fields.add("SUR");
+                fields.add(plain(brokerFee));
+                fields.add("SUR");
+                fields.add(plain(tradeSystemFee));
+                csvOut.write(String.join(";", fields));
+                csvOut.write("\r\n");
+            }
+
+            workbook.write(xlsOut);
+        }
+    }
+
+    private static double cents(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String plain(double value) {
+        return BigDecimal.valueOf(value).toPlainString();
+    }
+}